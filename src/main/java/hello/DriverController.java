@@ -5,9 +5,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -15,9 +15,21 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 @RestController
 public class DriverController {
-    private final AtomicLong counter = new AtomicLong();
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
 
-    private static Map<String, Driver> drivers = new HashMap<>();
+    // response header carrying the cursor of the next page, absent on the last page
+    private static final String NEXT_AFTER_HEADER = "X-Next-After";
+
+    // shared like drivers so every controller instance hands out unique ids
+    private static final AtomicLong counter = new AtomicLong();
+
+    // key: driver id
+    // value: driver
+    // kept sorted by id so pages can be read with keyset pagination
+    private static ConcurrentSkipListMap<Long, Driver> drivers = new ConcurrentSkipListMap<>();
+
+    private static DriverNameIndex nameIndex = new DriverNameIndex();
 
     /**
      * add a new Driver into drivers by post method
@@ -30,17 +42,64 @@ public class DriverController {
         Driver driver = new Driver(firstName, lastName);
         long id = counter.incrementAndGet();
         driver.setId(id);
-        drivers.put(String.valueOf(id), driver);
+        drivers.put(id, driver);
+        nameIndex.add(driver);
         return new ResponseEntity<>(driver, HttpStatus.CREATED);
     }
 
     /**
-     * return all the recorded drivers
+     * return one page of the recorded drivers ordered by id,
+     * or ordered by matching name then id when searching with q
+     * the cursor of the next page is returned in the X-Next-After header
+     * @param after id of the last driver of the previous page, 0 for the first page,
+     *              when searching it has to be a driver returned by the same search
+     * @param limit max number of drivers in the page
+     * @param q optional prefix of firstName or lastName to search for
      * @return list of Driver
      */
     @RequestMapping(value = "/drivers", method = RequestMethod.GET)
-    public ResponseEntity<List<Driver>> getAll() {
-        return new ResponseEntity<>(new ArrayList<>(drivers.values()), HttpStatus.OK);
+    public ResponseEntity<List<Driver>> getAll(
+            @RequestParam(value = "after", defaultValue = "0") long after,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(value = "q", required = false) String q) {
+        if (limit <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        limit = Math.min(limit, MAX_PAGE_SIZE);
+
+        Iterator<Driver> matches;
+        if (q == null || q.trim().isEmpty()) {
+            matches = drivers.tailMap(after, false).values().iterator();
+        } else {
+            Driver afterDriver = null;
+            if (after != 0) {
+                afterDriver = drivers.get(after);
+                if (afterDriver == null) { // cannot resume after an unknown driver
+                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+                }
+            }
+            matches = nameIndex.search(q, afterDriver);
+            if (matches == null) { // cursor does not belong to this search
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        List<Driver> page = new ArrayList<>(limit);
+        boolean hasNext = false;
+        while (matches.hasNext()) {
+            Driver driver = matches.next();
+            if (page.size() == limit) {
+                hasNext = true;
+                break;
+            }
+            page.add(driver);
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (hasNext) {
+            builder.header(NEXT_AFTER_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return builder.body(page);
     }
 
     /**
@@ -48,16 +107,24 @@ public class DriverController {
      */
     @RequestMapping(value = "/drivers/{id}", method = RequestMethod.GET)
     public ResponseEntity<Driver> get(@PathVariable("id") String id) {
-        Driver driver = null;
-        if (!drivers.containsKey(id)) { // cannot find such Driver in the drivers
+        Driver driver = findDriver(id);
+        if (driver == null) { // cannot find such Driver in the drivers
             return new ResponseEntity<Driver>(driver, HttpStatus.BAD_REQUEST);
         } else {
-            return new ResponseEntity<Driver>(drivers.get(id), HttpStatus.OK);
+            return new ResponseEntity<Driver>(driver, HttpStatus.OK);
         }
     }
 
     public static boolean isDriverValid(String id) {
-        return drivers.containsKey(id);
+        return findDriver(id) != null;
+    }
+
+    private static Driver findDriver(String id) {
+        try {
+            return drivers.get(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
 }
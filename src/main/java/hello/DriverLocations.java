@@ -22,18 +22,93 @@ public class DriverLocations {
 
     private long currentLocationId;
 
-    public DriverLocations(String driverId) {
+    private LocationFilter filter;
+
+    // the last two fixed locations, used by the filter to extrapolate the route
+    private Location previousStored;
+    private Location lastStored;
+
+    // stored location which follows the predicted route after lastStored,
+    // it is moved along with every predicted ping and becomes fixed once a ping is kept
+    private Location tail;
+
+    // latest ping of this driver, a suppressed ping carries the id of the stored location it was merged into
+    private Location current;
+
+    // number of pings of this driver suppressed by the filter
+    private long suppressedCount;
+
+    public DriverLocations(String driverId, LocationFilter filter) {
         this.driverId = driverId;
+        this.filter = filter;
         locations = new HashMap<>();
         currentLocationId = 0;
     }
 
-    public void addLocation(Location location) {
+    /**
+     * add a new ping for this driver
+     * the ping is only stored as a new location if the filter keeps it,
+     * otherwise it is merged into the latest stored location
+     * either way it becomes the current location of the driver
+     * @param location incoming ping
+     * @return true if the ping is stored as a new location
+     */
+    public boolean addLocation(Location location) {
+        Location head = getHead();
+        switch (filter.evaluate(previousStored, lastStored, head, location)) {
+            case TOO_SOON:
+            case STATIONARY:
+                // head stays where it is so the next checks still measure from the stored route
+                location.setId(head.getId());
+                current = location;
+                suppress();
+                return false;
+            case PREDICTED:
+                if (tail == null) {
+                    tail = location;
+                    put(location);
+                    current = location;
+                    return true;
+                }
+                // move the tail forward, the corner is kept because the tail is fixed on the next kept ping
+                tail.setLatitude(location.getLatitude());
+                tail.setLongitude(location.getLongitude());
+                tail.setTimestamp(location.getTimestamp());
+                current = tail;
+                suppress();
+                return false;
+            default:
+                if (tail != null) {
+                    fix(tail);
+                    tail = null;
+                }
+                put(location);
+                fix(location);
+                current = location;
+                return true;
+        }
+    }
+
+    private Location getHead() {
+        return tail != null ? tail : lastStored;
+    }
+
+    private void put(Location location) {
         long id = ++currentLocationId;
         location.setId(id);
         locations.put(id, location);
     }
 
+    private void fix(Location location) {
+        previousStored = lastStored;
+        lastStored = location;
+    }
+
+    private void suppress() {
+        suppressedCount++;
+        filter.onSuppressed();
+    }
+
     /**
      * return all the locations for this driver
      * @return
@@ -42,8 +117,16 @@ public class DriverLocations {
         return new ArrayList<>(locations.values());
     }
 
+    /**
+     * return the latest ping of this driver, including a suppressed one
+     * @return
+     */
     public Location getLastLocation() {
-        return locations.get(currentLocationId);
+        return current;
+    }
+
+    public long getSuppressedCount() {
+        return suppressedCount;
     }
 
     public Location getLocation(long locationId) {
@@ -65,8 +148,17 @@ public class DriverLocations {
         if (!locations.containsKey(locationId)) {
             return false;
         }
-        locations.remove(locationId);
+        Location location = locations.remove(locationId);
         --currentLocationId;
+        // start the route over so the filter never extrapolates from a deleted location
+        if (location == previousStored || location == lastStored || location == tail) {
+            previousStored = null;
+            lastStored = null;
+            tail = null;
+        }
+        if (current != null && current.getId() == locationId) {
+            current = locations.get(currentLocationId);
+        }
         return true;
     }
 
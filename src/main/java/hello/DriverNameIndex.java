@@ -0,0 +1,88 @@
+package hello;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted prefix index over drivers' first and last names
+ * used by the type-ahead search of GET /drivers?q=
+ */
+public class DriverNameIndex {
+    // separates the lower cased name from the driver id inside an index key,
+    // it sorts before any other character so all keys of the same name stay together
+    private static final char SEPARATOR = '\u0000';
+
+    // key: lower cased name + SEPARATOR + driver id
+    // value: driver
+    private final ConcurrentSkipListMap<String, Driver> names = new ConcurrentSkipListMap<>();
+
+    /**
+     * index both names of given driver
+     * @param driver driver which already has its id assigned
+     */
+    public void add(Driver driver) {
+        put(driver.getFirstName(), driver);
+        put(driver.getLastName(), driver);
+    }
+
+    /**
+     * find the drivers whose first name or last name starts with given prefix
+     * drivers are returned in index order (matching name, then id) and read lazily,
+     * so a page only touches the keys it returns
+     * @param prefix case insensitive name prefix
+     * @param after last driver of the previous page, null for the first page
+     * @return matching drivers, each driver at most once,
+     *         null if after does not match the prefix and so cannot be a cursor of this search
+     */
+    public Iterator<Driver> search(String prefix, Driver after) {
+        String from = normalize(prefix);
+        // every key starting with from is less than from + Character.MAX_VALUE
+        String to = from + Character.MAX_VALUE;
+
+        NavigableMap<String, Driver> matches;
+        if (after == null) {
+            matches = names.subMap(from, true, to, false);
+        } else {
+            String afterKey = key(after, from);
+            if (afterKey == null) {
+                return null;
+            }
+            matches = names.subMap(afterKey, false, to, false);
+        }
+        // a driver whose both names match has two keys, only keep the one key(driver, prefix) points to
+        return matches.entrySet().stream()
+                .filter(entry -> entry.getKey().equals(key(entry.getValue(), from)))
+                .map(entry -> entry.getValue())
+                .iterator();
+    }
+
+    /**
+     * the index key under which given driver is returned for given normalized prefix
+     * @return key of the smallest matching name, null if no name matches
+     */
+    private static String key(Driver driver, String prefix) {
+        String first = driver.getFirstName() == null ? null : normalize(driver.getFirstName());
+        String last = driver.getLastName() == null ? null : normalize(driver.getLastName());
+        String name = null;
+        if (first != null && first.startsWith(prefix)) {
+            name = first;
+        }
+        if (last != null && last.startsWith(prefix) && (name == null || last.compareTo(name) < 0)) {
+            name = last;
+        }
+        return name == null ? null : name + SEPARATOR + driver.getId();
+    }
+
+    private void put(String name, Driver driver) {
+        if (name == null) {
+            return;
+        }
+        names.put(normalize(name) + SEPARATOR + driver.getId(), driver);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,121 @@
+package hello;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingest filter which decides whether an incoming ping carries new information
+ * compared with the driver's stored route.
+ * A ping is merged into the route instead of stored if
+ *   1. it arrives less than minInterval after the latest stored location (TOO_SOON), or
+ *   2. the driver has not moved more than minDistance meters (STATIONARY), or
+ *   3. it lies within maxDeviation meters of the position extrapolated from
+ *      the heading and speed of the last two fixed locations (PREDICTED)
+ * a ping arriving maxInterval or later after the latest stored location is always kept.
+ */
+@Component
+public class LocationFilter {
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    /**
+     * which rule the ping matched
+     */
+    public enum Decision {
+        KEEP,
+        TOO_SOON,
+        STATIONARY,
+        PREDICTED
+    }
+
+    private final boolean enabled;
+    private final double minDistance; // meters
+    private final double maxDeviation; // meters
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+
+    // total number of pings suppressed over all drivers
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LocationFilter(@Value("${locations.filter.enabled:true}") boolean enabled,
+                          @Value("${locations.filter.min-distance:10}") double minDistance,
+                          @Value("${locations.filter.max-deviation:15}") double maxDeviation,
+                          @Value("${locations.filter.min-interval-millis:1000}") long minIntervalMillis,
+                          @Value("${locations.filter.max-interval-millis:60000}") long maxIntervalMillis) {
+        this.enabled = enabled;
+        this.minDistance = minDistance;
+        this.maxDeviation = maxDeviation;
+        this.minIntervalMillis = minIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+    }
+
+    /**
+     * check which rule, if any, lets the ping be merged into the stored route
+     * @param previous fixed location before last, may be null
+     * @param last last fixed location, may be null
+     * @param head latest stored location, either last or a location still following the predicted route
+     * @param ping incoming location
+     * @return KEEP if ping has to be stored, otherwise the rule it matched
+     */
+    public Decision evaluate(Location previous, Location last, Location head, Location ping) {
+        if (!enabled || last == null) {
+            return Decision.KEEP;
+        }
+
+        long elapsed = millisBetween(head, ping);
+        if (elapsed >= maxIntervalMillis) {
+            return Decision.KEEP;
+        }
+        if (elapsed < minIntervalMillis) {
+            return Decision.TOO_SOON;
+        }
+
+        if (distance(head.getLatitude(), head.getLongitude(), ping.getLatitude(), ping.getLongitude()) <= minDistance) {
+            return Decision.STATIONARY;
+        }
+
+        if (previous == null) {
+            return Decision.KEEP;
+        }
+        long span = millisBetween(previous, last);
+        if (span <= 0) {
+            return Decision.KEEP;
+        }
+
+        // dead reckoning: keep moving with the same heading and speed as between previous and last
+        double ratio = (double) millisBetween(last, ping) / span;
+        double latitude = last.getLatitude() + (last.getLatitude() - previous.getLatitude()) * ratio;
+        double longitude = last.getLongitude() + (last.getLongitude() - previous.getLongitude()) * ratio;
+        if (distance(latitude, longitude, ping.getLatitude(), ping.getLongitude()) <= maxDeviation) {
+            return Decision.PREDICTED;
+        }
+        return Decision.KEEP;
+    }
+
+    public void onSuppressed() {
+        suppressed.incrementAndGet();
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    private static long millisBetween(Location from, Location to) {
+        return Duration.between(from.getTimestamp(), to.getTimestamp()).toMillis();
+    }
+
+    /**
+     * haversine distance between two coordinates
+     * @return distance in meters
+     */
+    public static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -19,11 +19,18 @@ public class LocationServiceController {
     // value: list of locations of this driver
     private Map<String, DriverLocations> locationsMap = new HashMap<>();
 
+    private final LocationFilter locationFilter;
+
+    public LocationServiceController(LocationFilter locationFilter) {
+        this.locationFilter = locationFilter;
+    }
+
     /**
      * post a location for a given driver
      * @param id Driver Id
      * @param inputLocation input location
-     * @return
+     * @return CREATED with the location if it is stored, ACCEPTED if the filter suppressed it,
+     *         then the location carries the id of the stored location it was merged into
      */
     @RequestMapping(value = "/drivers/{id}/locations", method = RequestMethod.POST)
     public ResponseEntity<Location> create(
@@ -38,10 +45,14 @@ public class LocationServiceController {
         }
         // if current driver is not in the table, put it first
         if (!locationsMap.containsKey(id)) {
-            locationsMap.put(id, new DriverLocations(id));
+            locationsMap.put(id, new DriverLocations(id, locationFilter));
+        }
+        DriverLocations driverLocations = locationsMap.get(id);
+        if (driverLocations.addLocation(location)) {
+            return new ResponseEntity<>(location, HttpStatus.CREATED);
+        } else {
+            return new ResponseEntity<>(driverLocations.getLastLocation(), HttpStatus.ACCEPTED);
         }
-        locationsMap.get(id).addLocation(location);
-        return new ResponseEntity<>(location, HttpStatus.CREATED);
     }
 
     /**
@@ -113,6 +124,29 @@ public class LocationServiceController {
         }
     }
 
+    /**
+     * get how many pings of given driver were suppressed by the ingest filter
+     * @param id
+     * @return
+     */
+    @RequestMapping(value = "/drivers/{id}/locations/suppressed", method = RequestMethod.GET)
+    public ResponseEntity<Long> getSuppressed(@PathVariable("id") String id) {
+        // sanity check
+        if (!locationsMap.containsKey(id)) {
+            return new ResponseEntity<>(0L, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(locationsMap.get(id).getSuppressedCount(), HttpStatus.OK);
+    }
+
+    /**
+     * get how many pings of all drivers were suppressed by the ingest filter
+     * @return
+     */
+    @RequestMapping(value = "/locations/suppressed", method = RequestMethod.GET)
+    public ResponseEntity<Long> getSuppressedTotal() {
+        return new ResponseEntity<>(locationFilter.getSuppressedCount(), HttpStatus.OK);
+    }
+
     /**
      * update a certain location for given driver at given locationId
      * @param id Driver Id
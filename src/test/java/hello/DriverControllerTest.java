@@ -0,0 +1,83 @@
+package hello;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DriverControllerTest {
+    private DriverController controller;
+
+    @Before
+    public void setUp() {
+        controller = new DriverController();
+    }
+
+    @Test
+    public void lastPageHasNoNextCursor() {
+        long first = create("Paging", "Lastpage").getId();
+        create("Paging", "Lastpage");
+        long third = create("Paging", "Lastpage").getId();
+
+        ResponseEntity<List<Driver>> page = controller.getAll(0, 2, "lastpage");
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertEquals(2, page.getBody().size());
+        assertEquals(first, page.getBody().get(0).getId());
+        String next = page.getHeaders().getFirst("X-Next-After");
+
+        page = controller.getAll(Long.parseLong(next), 2, "lastpage");
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertEquals(1, page.getBody().size());
+        assertEquals(third, page.getBody().get(0).getId());
+        assertNull(page.getHeaders().getFirst("X-Next-After"));
+    }
+
+    @Test
+    public void pagingByIdResumesAfterCursor() {
+        long first = create("Keyset", "Byid").getId();
+        long second = create("Keyset", "Byid").getId();
+
+        ResponseEntity<List<Driver>> page = controller.getAll(first, 1, null);
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertEquals(second, page.getBody().get(0).getId());
+    }
+
+    @Test
+    public void limitIsClampedToMaxPageSize() {
+        for (int i = 0; i < 1001; i++) {
+            create("Clamp", "Clampsize");
+        }
+
+        ResponseEntity<List<Driver>> page = controller.getAll(0, 5000, "clampsize");
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertEquals(1000, page.getBody().size());
+        assertEquals(String.valueOf(page.getBody().get(999).getId()), page.getHeaders().getFirst("X-Next-After"));
+    }
+
+    @Test
+    public void nonPositiveLimitIsRejected() {
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getAll(0, 0, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getAll(0, -1, "any").getStatusCode());
+    }
+
+    @Test
+    public void badSearchCursorIsRejected() {
+        long matching = create("Cursor", "Badcursor").getId();
+        long other = create("Other", "Driver").getId();
+
+        assertEquals(HttpStatus.OK, controller.getAll(matching, 10, "badcursor").getStatusCode());
+        // driver which does not match the search
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getAll(other, 10, "badcursor").getStatusCode());
+        // unknown driver
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getAll(Long.MAX_VALUE, 10, "badcursor").getStatusCode());
+    }
+
+    private Driver create(String firstName, String lastName) {
+        return controller.create(firstName, lastName).getBody();
+    }
+}
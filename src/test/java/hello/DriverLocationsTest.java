@@ -0,0 +1,141 @@
+package hello;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class DriverLocationsTest {
+    private static final LocalDateTime START = LocalDateTime.of(2018, 7, 21, 8, 0);
+
+    private LocationFilter filter;
+    private DriverLocations driverLocations;
+
+    @Before
+    public void setUp() {
+        // min distance 10m, max deviation 15m, min interval 1s, max interval 60s
+        filter = new LocationFilter(true, 10, 15, 1000, 60000);
+        driverLocations = new DriverLocations("1", filter);
+    }
+
+    @Test
+    public void parkedDriverKeepsOneLocationPerMaxInterval() {
+        // 30 pings every 5 seconds jittering by about 1m around the same spot
+        for (int i = 0; i < 30; i++) {
+            add(40.0 + (i % 2) * 0.00001, -74.0, i * 5000L);
+        }
+
+        // stored at 0s, 60s and 120s
+        assertEquals(3, driverLocations.getAll().size());
+        assertEquals(27, driverLocations.getSuppressedCount());
+        assertEquals(27, filter.getSuppressedCount());
+        assertEquals(START.plusSeconds(120), driverLocations.getLocation(3).getTimestamp());
+
+        // the current location follows the last ping and points to the stored location it was merged into
+        Location current = driverLocations.getLastLocation();
+        assertEquals(START.plusSeconds(145), current.getTimestamp());
+        assertEquals(3, current.getId());
+    }
+
+    @Test
+    public void straightRoadIsMergedIntoOneMovingLocation() {
+        // 20 pings every 5 seconds moving about 55m north each time
+        for (int i = 0; i < 20; i++) {
+            add(40.0 + i * 0.0005, -74.0, i * 5000L);
+        }
+
+        // two locations to get the heading, then one location following the road
+        assertEquals(3, driverLocations.getAll().size());
+        assertEquals(17, driverLocations.getSuppressedCount());
+
+        Location last = driverLocations.getLastLocation();
+        assertEquals(40.0 + 19 * 0.0005, last.getLatitude(), 1e-9);
+        assertEquals(START.plusSeconds(95), last.getTimestamp());
+        assertSame(last, driverLocations.getLocation(last.getId()));
+    }
+
+    @Test
+    public void turningKeepsTheCorner() {
+        // 10 pings north then 5 pings east, every 5 seconds and about 55m apart
+        for (int i = 0; i < 10; i++) {
+            add(40.0 + i * 0.0005, -74.0, i * 5000L);
+        }
+        double cornerLatitude = 40.0 + 9 * 0.0005;
+        for (int i = 1; i <= 5; i++) {
+            add(cornerLatitude, -74.0 + i * 0.0005, (9 + i) * 5000L);
+        }
+
+        // 2 heading locations, the corner, the first ping after it and the location following the new road
+        assertEquals(5, driverLocations.getAll().size());
+        assertEquals(10, driverLocations.getSuppressedCount());
+
+        Location corner = driverLocations.getLocation(3);
+        assertEquals(cornerLatitude, corner.getLatitude(), 1e-9);
+        assertEquals(-74.0, corner.getLongitude(), 1e-9);
+        assertEquals(START.plusSeconds(45), corner.getTimestamp());
+
+        assertEquals(-74.0 + 5 * 0.0005, driverLocations.getLastLocation().getLongitude(), 1e-9);
+    }
+
+    @Test
+    public void fastPingsAreNotStoredLater() {
+        // 20 pings every 500ms moving about 11m north each time
+        for (int i = 0; i < 20; i++) {
+            add(40.0 + i * 0.0001, -74.0, i * 500L);
+        }
+
+        // two locations to get the heading, then one location following the road
+        assertEquals(3, driverLocations.getAll().size());
+        assertEquals(17, driverLocations.getSuppressedCount());
+        assertEquals(17, filter.getSuppressedCount());
+    }
+
+    @Test
+    public void currentLocationFollowsPingArrivingTooSoon() {
+        add(40.0, -74.0, 0);
+        add(40.001, -74.0, 5000);
+        Location current = add(40.0011, -74.0, 5500);
+
+        assertEquals(2, driverLocations.getAll().size());
+        assertEquals(1, driverLocations.getSuppressedCount());
+
+        assertSame(current, driverLocations.getLastLocation());
+        assertEquals(40.0011, current.getLatitude(), 1e-9);
+        assertEquals(START.plusNanos(5500 * 1000000L), current.getTimestamp());
+        assertEquals(2, current.getId());
+
+        // the stored location is unchanged so the next checks measure from it
+        assertEquals(40.001, driverLocations.getLocation(2).getLatitude(), 1e-9);
+        assertEquals(START.plusSeconds(5), driverLocations.getLocation(2).getTimestamp());
+    }
+
+    @Test
+    public void disabledFilterStoresEveryPing() {
+        driverLocations = new DriverLocations("1", new LocationFilter(false, 10, 15, 1000, 60000));
+        for (int i = 0; i < 10; i++) {
+            add(40.0, -74.0, i * 5000L);
+        }
+
+        assertEquals(10, driverLocations.getAll().size());
+        assertEquals(0, driverLocations.getSuppressedCount());
+    }
+
+    /**
+     * add a ping and check it becomes the current location with the id of a stored location
+     */
+    private Location add(double latitude, double longitude, long millis) {
+        Location ping = new Location(latitude, longitude);
+        ping.setTimestamp(START.plusNanos(millis * 1000000L));
+        driverLocations.addLocation(ping);
+        Location current = driverLocations.getLastLocation();
+        assertEquals(ping.getTimestamp(), current.getTimestamp());
+        assertNotEquals(0, current.getId());
+        assertNotNull(driverLocations.getLocation(current.getId()));
+        return current;
+    }
+}
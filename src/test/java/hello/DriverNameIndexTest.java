@@ -0,0 +1,108 @@
+package hello;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DriverNameIndexTest {
+    private DriverNameIndex nameIndex;
+
+    @Before
+    public void setUp() {
+        nameIndex = new DriverNameIndex();
+    }
+
+    @Test
+    public void driverMatchingByBothNamesIsReturnedOnce() {
+        add(1, "Alice", "Smith");
+        add(2, "Al", "Alvarez");
+        add(3, "Bob", "Allen");
+        add(4, "al", "al");
+
+        // index order: al (2), al (4), alice (1), allen (3), alvarez is skipped for 2
+        assertEquals(Arrays.asList(2L, 4L, 1L, 3L), ids(search("al", null, 10)));
+        assertEquals(Arrays.asList(2L, 4L, 1L, 3L), allPages("al", 1));
+        assertEquals(Arrays.asList(2L, 4L, 1L, 3L), allPages("al", 3));
+    }
+
+    @Test
+    public void pagingResumesAfterDriverIndexedByLastName() {
+        add(1, "Zoe", "Smith");
+        add(2, "Sam", "Young");
+        add(3, "Sue", "Smalls");
+
+        // 1 and 3 only match by their last names
+        assertEquals(Arrays.asList(2L, 3L, 1L), ids(search("s", null, 10)));
+        List<Driver> first = search("sm", null, 1);
+        assertEquals(Arrays.asList(3L), ids(first));
+        assertEquals(Arrays.asList(1L), ids(search("sm", first.get(0), 10)));
+    }
+
+    @Test
+    public void matchingIsCaseInsensitive() {
+        add(1, "Maria", "Lopez");
+        add(2, "MARIO", "Rossi");
+        add(3, "Ann", "McMahon");
+
+        assertEquals(Arrays.asList(1L, 2L), ids(search("MAR", null, 10)));
+        assertEquals(Arrays.asList(3L), ids(search("mcm", null, 10)));
+        assertEquals(Arrays.asList(1L, 2L), allPages("  Mar ", 1));
+    }
+
+    @Test
+    public void cursorNotMatchingPrefixIsRejected() {
+        Driver anna = add(1, "Anna", "Lee");
+        Driver bob = add(2, "Bob", "Stone");
+
+        assertNull(nameIndex.search("an", bob));
+        assertNull(nameIndex.search("bo", anna));
+        assertEquals(0, ids(search("an", anna, 10)).size());
+    }
+
+    private Driver add(long id, String firstName, String lastName) {
+        Driver driver = new Driver(firstName, lastName);
+        driver.setId(id);
+        nameIndex.add(driver);
+        return driver;
+    }
+
+    private List<Driver> search(String prefix, Driver after, int limit) {
+        Iterator<Driver> matches = nameIndex.search(prefix, after);
+        List<Driver> page = new ArrayList<>();
+        while (matches.hasNext() && page.size() < limit) {
+            page.add(matches.next());
+        }
+        return page;
+    }
+
+    /**
+     * follow the cursor page by page until the search is exhausted
+     */
+    private List<Long> allPages(String prefix, int limit) {
+        List<Long> ids = new ArrayList<>();
+        Driver after = null;
+        while (true) {
+            List<Driver> page = search(prefix, after, limit);
+            if (page.isEmpty()) {
+                return ids;
+            }
+            ids.addAll(ids(page));
+            after = page.get(page.size() - 1);
+        }
+    }
+
+    private static List<Long> ids(List<Driver> drivers) {
+        List<Long> ids = new ArrayList<>();
+        for (Driver driver : drivers) {
+            ids.add(driver.getId());
+        }
+        return ids;
+    }
+}